@@ -62,6 +62,13 @@ public class RecipeController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<Recipe>> similar(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "10") int k) {
+        //service.findSimilar will throw ResourceNotFoundException if id not present
+        return ResponseEntity.ok(recipeService.findSimilar(id, k));
+    }
+
     @GetMapping
     public ResponseEntity<List<Recipe>> search(
             @RequestParam(required = false) Boolean vegetarian,
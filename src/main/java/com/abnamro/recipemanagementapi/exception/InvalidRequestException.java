@@ -0,0 +1,12 @@
+package com.abnamro.recipemanagementapi.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException() {
+        super();
+    }
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.abnamro.recipemanagementapi.repository;
+
+//one (recipe, ingredient) row of the recipe_ingredients collection table
+public interface RecipeIngredient {
+    Long getRecipeId();
+    String getIngredient();
+}
@@ -3,6 +3,13 @@ package com.abnamro.recipemanagementapi.repository;
 import com.abnamro.recipemanagementapi.model.Recipe;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long>, JpaSpecificationExecutor<Recipe> {
+
+    //single query over the collection table, used to build the similarity index without loading full recipes
+    @Query("select r.id as recipeId, i as ingredient from Recipe r join r.ingredients i")
+    List<RecipeIngredient> findAllIngredients();
 }
@@ -1,33 +1,85 @@
 package com.abnamro.recipemanagementapi.service;
 
+import com.abnamro.recipemanagementapi.exception.InvalidRequestException;
 import com.abnamro.recipemanagementapi.exception.ResourceNotFoundException;
 import com.abnamro.recipemanagementapi.model.Recipe;
+import com.abnamro.recipemanagementapi.repository.RecipeIngredient;
 import com.abnamro.recipemanagementapi.repository.RecipeRepository;
+import com.abnamro.recipemanagementapi.similarity.RecipeSimilarityIndex;
+import com.abnamro.recipemanagementapi.similarity.SimilarRecipe;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-public class RecipeService {
+public class RecipeService implements SmartInitializingSingleton {
+
+    public static final int MAX_SIMILAR = 100;
+    private static final int WRITE_LOCK_STRIPES = 64;
 
     private final RecipeRepository recipeRepository;
+    private final RecipeSimilarityIndex similarityIndex;
+    //writes to the same recipe run one at a time (save commits, then index), so the index sees them in commit order
+    private final Lock[] writeLocks = new Lock[WRITE_LOCK_STRIPES];
+    //writes share it, a rebuild takes it exclusively so no write can land between the snapshot and the swap
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
 
-    public RecipeService(RecipeRepository recipeRepository) {
+    public RecipeService(RecipeRepository recipeRepository, RecipeSimilarityIndex similarityIndex) {
         this.recipeRepository = recipeRepository;
+        this.similarityIndex = similarityIndex;
+        for(int i = 0; i < WRITE_LOCK_STRIPES; i++) writeLocks[i] = new ReentrantLock();
+    }
+
+    //runs before the web server starts, so /similar never serves a half-built index
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuildSimilarityIndex();
+    }
+
+    //load the existing catalog into the in-memory similarity index
+    public void rebuildSimilarityIndex() {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<Long, List<String>> ingredientsById = new HashMap<>();
+            for(RecipeIngredient row : recipeRepository.findAllIngredients()) {
+                ingredientsById.computeIfAbsent(row.getRecipeId(), key -> new ArrayList<>()).add(row.getIngredient());
+            }
+            similarityIndex.rebuild(ingredientsById);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
     }
 
     public Recipe save(Recipe recipe) {
-        normalizeIngredients(recipe);
-        return recipeRepository.save(recipe);
+        return locked(recipe.getId(), () -> {
+            normalizeIngredients(recipe);
+            Recipe saved = recipeRepository.save(recipe);
+            similarityIndex.index(saved);
+            return saved;
+        });
     }
 
     public Recipe update(Long id, Recipe updatedRecipe) {
+        return locked(id, () -> doUpdate(id, updatedRecipe));
+    }
+
+    private Recipe doUpdate(Long id, Recipe updatedRecipe) {
         Recipe existingRecipe = recipeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id " + id));
 
@@ -40,10 +92,16 @@ public class RecipeService {
 
         //normalize and set ingredients
         existingRecipe.setIngredients(normalizeList(updatedRecipe.getIngredients()));
-        return recipeRepository.save(existingRecipe);
+        Recipe saved = recipeRepository.save(existingRecipe);
+        similarityIndex.index(saved);
+        return saved;
     }
 
     public Recipe partialUpdate(Long id, Map<String, Object> updates, ObjectMapper objectMapper) {
+        return locked(id, () -> doPartialUpdate(id, updates, objectMapper));
+    }
+
+    private Recipe doPartialUpdate(Long id, Map<String, Object> updates, ObjectMapper objectMapper) {
         Recipe existing = recipeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id " + id));
 
@@ -65,7 +123,9 @@ public class RecipeService {
             existing.setIngredients(normalizeList(existing.getIngredients()));
         }
 
-        return recipeRepository.save(existing);
+        Recipe saved = recipeRepository.save(existing);
+        similarityIndex.index(saved);
+        return saved;
     }
 
     private void normalizeIngredients(Recipe recipe) {
@@ -87,8 +147,25 @@ public class RecipeService {
     }
 
     public void deleteById(Long id) {
-        if(!recipeRepository.existsById(id)) throw new ResourceNotFoundException("Recipe not found with id " + id);
-        recipeRepository.deleteById(id);
+        locked(id, () -> {
+            if(!recipeRepository.existsById(id)) throw new ResourceNotFoundException("Recipe not found with id " + id);
+            recipeRepository.deleteById(id);
+            similarityIndex.remove(id);
+            return null;
+        });
+    }
+
+    //holds the recipe's write lock across the committing save and the index update
+    private <T> T locked(Long id, Supplier<T> write) {
+        rebuildLock.readLock().lock();
+        Lock lock = (id == null) ? null : writeLocks[Math.floorMod(id.hashCode(), WRITE_LOCK_STRIPES)];
+        if(lock != null) lock.lock();
+        try {
+            return write.get();
+        } finally {
+            if(lock != null) lock.unlock();
+            rebuildLock.readLock().unlock();
+        }
     }
 
     public List<Recipe> findAll() {
@@ -100,4 +177,25 @@ public class RecipeService {
         return recipeRepository.findAll(specification);
     }
 
+    //top-k recipes sharing the most ingredients (Jaccard), best match first
+    @Transactional(readOnly = true)
+    public List<Recipe> findSimilar(Long id, int k) {
+        if(k < 1 || k > MAX_SIMILAR) throw new InvalidRequestException("k must be between 1 and " + MAX_SIMILAR);
+        Recipe recipe = recipeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Recipe not found with id " + id));
+
+        //the index only sees writes made through this service, ids of recipes deleted behind its back
+        //are dropped from the index here and the query is repeated, so they never take a top-k slot
+        while(true) {
+            List<Long> ids = similarityIndex.mostSimilar(recipe, k).stream().map(SimilarRecipe::id).toList();
+            Map<Long, Recipe> byId = recipeRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+            ids.stream().filter(stale -> !byId.containsKey(stale)).forEach(similarityIndex::remove);
+            if(byId.size() == ids.size() || ids.size() < k) {
+                //keep the ranking of the index
+                return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,244 @@
+package com.abnamro.recipemanagementapi.similarity;
+
+import com.abnamro.recipemanagementapi.model.Recipe;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from ingredient to recipe ids, used to find the recipes whose
+ * ingredient sets have the highest Jaccard similarity to a given recipe.
+ *
+ * <p>Results are exact (the same top-K a brute-force scan would return, up to ties), but
+ * only recipes sharing at least one ingredient are ever looked at. Query ingredients are
+ * visited rarest first, and the scan stops once no recipe that has not been seen yet
+ * could beat the current K-th best score. Staples like "salt" with huge posting lists are
+ * therefore usually never scanned.
+ *
+ * <p>The index is kept up to date by {@code RecipeService} on every write and rebuilt from
+ * the database on startup, before the web server accepts requests. Writes that bypass the
+ * service (e.g. {@code RecipeRepository} directly) are not seen until the next rebuild.
+ * An ingredient is dropped from the vocabulary as soon as no recipe uses it any more, so
+ * the index only grows with the live catalog.
+ */
+@Component
+public class RecipeSimilarityIndex {
+
+    //worst result first, ties broken by preferring the lower id
+    private static final Comparator<SimilarRecipe> WORST_FIRST = Comparator
+            .comparingDouble(SimilarRecipe::score)
+            .thenComparing(SimilarRecipe::id, Comparator.reverseOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //ingredient -> dense token id
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    //token id -> ingredient, null for a free slot
+    private final List<String> tokenNames = new ArrayList<>();
+    //token ids whose ingredient is no longer used, reused before the arrays grow
+    private final Deque<Integer> freeTokens = new ArrayDeque<>();
+    //token id -> ids of recipes containing it, null for a free slot
+    private final List<Set<Long>> postings = new ArrayList<>();
+    //recipe id -> sorted token ids
+    private final Map<Long, int[]> recipeTokens = new HashMap<>();
+
+    //replaces the whole index, keyed by recipe id
+    public void rebuild(Map<Long, ? extends Collection<String>> ingredientsById) {
+        lock.writeLock().lock();
+        try {
+            tokenIds.clear();
+            tokenNames.clear();
+            freeTokens.clear();
+            postings.clear();
+            recipeTokens.clear();
+            ingredientsById.forEach(this::indexLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //inserts the recipe or replaces its previous ingredients
+    public void index(Recipe recipe) {
+        if(recipe == null || recipe.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipe.getId());
+            indexLocked(recipe.getId(), recipe.getIngredients());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if(id == null) return;
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipeTokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //number of distinct ingredients used by indexed recipes
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return tokenIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} recipes most similar to the given one, best first. The recipe
+     * itself is never part of the result, nor are recipes without a common ingredient.
+     */
+    public List<SimilarRecipe> mostSimilar(Recipe recipe, int k) {
+        Set<String> ingredients = normalize(recipe.getIngredients());
+        if(k <= 0 || ingredients.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            return mostSimilarLocked(recipe.getId(), ingredients, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SimilarRecipe> mostSimilarLocked(Long selfId, Set<String> ingredients, int k) {
+        int querySize = ingredients.size();
+        //unknown ingredients still count towards the union, they just have no postings
+        List<Integer> known = new ArrayList<>();
+        for(String ingredient : ingredients) {
+            Integer token = tokenIds.get(ingredient);
+            if(token != null) known.add(token);
+        }
+        int[] queryTokens = known.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int unknown = querySize - queryTokens.length;
+        //rarest ingredients first, so the common ones are the ones pruned away
+        known.sort(Comparator.comparingInt(token -> postings.get(token).size()));
+
+        PriorityQueue<SimilarRecipe> top = new PriorityQueue<>(k + 1, WORST_FIRST);
+        Set<Long> seen = new HashSet<>();
+        for(int i = 0; i < known.size(); i++) {
+            //a recipe first met now shares at most the remaining ingredients, so J <= remaining / |Q|
+            int remaining = querySize - unknown - i;
+            if(top.size() == k && (double) remaining / querySize <= top.peek().score()) break;
+
+            for(Long candidate : postings.get(known.get(i))) {
+                if(candidate.equals(selfId) || !seen.add(candidate)) continue;
+                int[] candidateTokens = recipeTokens.get(candidate);
+                //size filter: J <= min(|Q|, |X|) / max(|Q|, |X|)
+                if(top.size() == k) {
+                    double bound = (double) Math.min(querySize, candidateTokens.length)
+                            / Math.max(querySize, candidateTokens.length);
+                    if(bound <= top.peek().score()) continue;
+                }
+                int overlap = intersectionSize(queryTokens, candidateTokens);
+                double score = (double) overlap / (querySize + candidateTokens.length - overlap);
+                offer(top, new SimilarRecipe(candidate, score), k);
+            }
+        }
+
+        List<SimilarRecipe> result = new ArrayList<>(top);
+        result.sort(WORST_FIRST.reversed());
+        return result;
+    }
+
+    private static void offer(PriorityQueue<SimilarRecipe> top, SimilarRecipe candidate, int k) {
+        if(top.size() < k) {
+            top.add(candidate);
+        } else if(WORST_FIRST.compare(candidate, top.peek()) > 0) {
+            top.poll();
+            top.add(candidate);
+        }
+    }
+
+    private static int intersectionSize(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+        while(i < a.length && j < b.length) {
+            if(a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if(a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private void indexLocked(Long id, Collection<String> rawIngredients) {
+        Set<String> ingredients = normalize(rawIngredients);
+        if(id == null || ingredients.isEmpty()) return;
+        int[] tokens = new int[ingredients.size()];
+        int n = 0;
+        for(String ingredient : ingredients) {
+            int token = tokenIds.computeIfAbsent(ingredient, this::allocateToken);
+            postings.get(token).add(id);
+            tokens[n++] = token;
+        }
+        Arrays.sort(tokens);
+        recipeTokens.put(id, tokens);
+    }
+
+    private void removeLocked(Long id) {
+        int[] tokens = recipeTokens.remove(id);
+        if(tokens == null) return;
+        for(int token : tokens) {
+            Set<Long> posting = postings.get(token);
+            posting.remove(id);
+            //last recipe using this ingredient: forget it and free the slot
+            if(posting.isEmpty()) {
+                tokenIds.remove(tokenNames.set(token, null));
+                postings.set(token, null);
+                freeTokens.push(token);
+            }
+        }
+    }
+
+    private int allocateToken(String ingredient) {
+        Integer free = freeTokens.poll();
+        if(free != null) {
+            tokenNames.set(free, ingredient);
+            postings.set(free, new HashSet<>());
+            return free;
+        }
+        tokenNames.add(ingredient);
+        postings.add(new HashSet<>());
+        return postings.size() - 1;
+    }
+
+    private static Set<String> normalize(Collection<String> ingredients) {
+        Set<String> normalized = new HashSet<>();
+        if(ingredients == null) return normalized;
+        for(String ingredient : ingredients) {
+            if(ingredient == null || ingredient.isBlank()) continue;
+            normalized.add(ingredient.trim().toLowerCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,8 @@
+package com.abnamro.recipemanagementapi.similarity;
+
+/**
+ * A neighbour returned by {@link RecipeSimilarityIndex}, scored by the Jaccard similarity
+ * of the two ingredient sets.
+ */
+public record SimilarRecipe(Long id, double score) {
+}
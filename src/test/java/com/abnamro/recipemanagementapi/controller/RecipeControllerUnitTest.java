@@ -1,6 +1,7 @@
 package com.abnamro.recipemanagementapi.controller;
 
 import com.abnamro.recipemanagementapi.exception.GlobalExceptionHandler;
+import com.abnamro.recipemanagementapi.exception.InvalidRequestException;
 import com.abnamro.recipemanagementapi.model.Recipe;
 import com.abnamro.recipemanagementapi.service.RecipeService;
 import org.junit.jupiter.api.BeforeEach;
@@ -115,6 +116,26 @@ public class RecipeControllerUnitTest {
         verify(recipeService, times(1)).deleteById(1L);
     }
 
+    @Test
+    void similar_returnsRankedList() throws Exception {
+        Recipe r = new Recipe(2L, "Aloo Gobi", true, 2, List.of("potato", "cauliflower"), "cook", 20);
+        when(recipeService.findSimilar(1L, 5)).thenReturn(List.of(r));
+
+        mockMvc.perform(get("/recipes/1/similar").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].name").value("Aloo Gobi"));
+    }
+
+    @Test
+    void similar_invalidK_returnsBadRequest() throws Exception {
+        when(recipeService.findSimilar(1L, 0)).thenThrow(new InvalidRequestException("k must be between 1 and 100"));
+
+        mockMvc.perform(get("/recipes/1/similar").param("k", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+    }
+
     @Test
     void search_returnsList() throws Exception{
         Recipe r = new Recipe(1L, "Aloo", true, 2, List.of("potato"), "cook", 15);
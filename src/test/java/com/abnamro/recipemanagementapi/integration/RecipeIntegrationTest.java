@@ -2,6 +2,7 @@ package com.abnamro.recipemanagementapi.integration;
 
 import com.abnamro.recipemanagementapi.model.Recipe;
 import com.abnamro.recipemanagementapi.repository.RecipeRepository;
+import com.abnamro.recipemanagementapi.service.RecipeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +29,8 @@ public class RecipeIntegrationTest {
     @Autowired
     private RecipeRepository recipeRepository;
     @Autowired
+    private RecipeService recipeService;
+    @Autowired
     MockMvc mockMvc;
     @Autowired
     ObjectMapper objectMapper;
@@ -35,6 +38,7 @@ public class RecipeIntegrationTest {
     @BeforeEach
     void setUp(){
         recipeRepository.deleteAll();
+        recipeService.rebuildSimilarityIndex();
     }
 
     @Test
@@ -127,4 +131,38 @@ public class RecipeIntegrationTest {
 
     }
 
+    @Test
+    void similar_returns_closest_recipes_first() throws Exception {
+        Long queryId = create(new Recipe(null, "Query", true, 2, List.of("quince", "fennel", "sorrel"), "cook", 10));
+        Long closeId = create(new Recipe(null, "Close", true, 2, List.of("Quince", "fennel", "sorrel", "chervil"), "cook", 10));
+        Long farId = create(new Recipe(null, "Far", true, 2, List.of("quince", "okra"), "cook", 10));
+        create(new Recipe(null, "Unrelated", true, 2, List.of("okra"), "cook", 10));
+
+        mockMvc.perform(get("/recipes/" + queryId + "/similar").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(closeId))
+                .andExpect(jsonPath("$[1].id").value(farId));
+
+        //deleted recipes drop out of the index
+        mockMvc.perform(delete("/recipes/" + closeId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/recipes/" + queryId + "/similar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(farId));
+
+        mockMvc.perform(get("/recipes/999999/similar"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long create(Recipe recipe) throws Exception {
+        String body = mockMvc.perform(post("/recipes")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(recipe)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Recipe.class).getId();
+    }
+
 }
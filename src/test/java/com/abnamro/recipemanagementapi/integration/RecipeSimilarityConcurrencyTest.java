@@ -0,0 +1,95 @@
+package com.abnamro.recipemanagementapi.integration;
+
+import com.abnamro.recipemanagementapi.model.Recipe;
+import com.abnamro.recipemanagementapi.repository.RecipeRepository;
+import com.abnamro.recipemanagementapi.service.RecipeService;
+import com.abnamro.recipemanagementapi.similarity.RecipeSimilarityIndex;
+import com.abnamro.recipemanagementapi.similarity.SimilarRecipe;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class RecipeSimilarityConcurrencyTest {
+    @Autowired
+    private RecipeService recipeService;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private RecipeSimilarityIndex similarityIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrent_updates_leave_index_matching_database() throws Exception {
+        Recipe saved = recipeService.save(new Recipe(null, "Contended", true, 2, List.of("yuzu-0"), "cook", 10));
+        Long id = saved.getId();
+
+        //every writer puts its own ingredient set on the same recipe
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for(int i = 0; i < 200; i++) {
+                List<String> ingredients = List.of("yuzu-" + i, "shiso-" + i);
+                writes.add(executor.submit(() ->
+                        recipeService.update(id, new Recipe(null, "Contended", true, 2, ingredients, "cook", 10))));
+            }
+            for(Future<?> write : writes) write.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //the last committed ingredients must be the ones the index knows for this recipe
+        List<String> committed = transactionTemplate.execute(status ->
+                new ArrayList<>(recipeRepository.findById(id).orElseThrow().getIngredients()));
+        Recipe probe = new Recipe(null, "Probe", true, 2, committed, "cook", 10);
+        List<SimilarRecipe> similar = similarityIndex.mostSimilar(probe, 1);
+
+        assertEquals(1, similar.size());
+        assertEquals(id, similar.get(0).id());
+        assertEquals(1.0, similar.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void rebuild_loads_ingredients_from_database() {
+        Recipe saved = recipeRepository.save(new Recipe(null, "Direct", true, 2, List.of("sansho", "kombu"), "cook", 10));
+
+        recipeService.rebuildSimilarityIndex();
+
+        Recipe probe = new Recipe(null, "Probe", true, 2, List.of("sansho", "kombu"), "cook", 10);
+        List<SimilarRecipe> similar = similarityIndex.mostSimilar(probe, 1);
+        assertEquals(saved.getId(), similar.get(0).id());
+        assertEquals(1.0, similar.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void findSimilar_skips_recipes_deleted_behind_the_service() {
+        Recipe query = recipeService.save(new Recipe(null, "Query", true, 2, List.of("fennel", "anise", "dill"), "cook", 10));
+        List<Long> close = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            close.add(recipeService.save(new Recipe(null, "Close " + i, true, 2, List.of("fennel", "anise", "dill", "x-" + i), "cook", 10)).getId());
+        }
+        Long far = recipeService.save(new Recipe(null, "Far", true, 2, List.of("fennel", "lovage"), "cook", 10)).getId();
+
+        //the index still ranks the deleted recipes first
+        recipeRepository.deleteAllById(close.subList(0, 2));
+
+        List<Long> similar = recipeService.findSimilar(query.getId(), 2).stream().map(Recipe::getId).toList();
+        assertEquals(List.of(close.get(2), far), similar);
+        assertEquals(List.of(close.get(2)), similarityIndex.mostSimilar(query, 1).stream().map(SimilarRecipe::id).toList());
+    }
+}
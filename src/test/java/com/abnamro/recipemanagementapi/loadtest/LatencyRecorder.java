@@ -0,0 +1,83 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+/**
+ * Log-bucketed latency histogram for one operation type. Every power of two is split into
+ * 64 linear sub-buckets, so a recorded value is reported within ~1.6% of its real value
+ * while memory stays constant (~30 KB) no matter how long the run is. Not thread-safe:
+ * every worker owns its recorders and they are merged once the run has finished.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //values below 2 * SUB_BUCKETS are stored exactly, each further power of two adds SUB_BUCKETS buckets
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long errors;
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[bucketOf(value)]++;
+        count++;
+        totalNanos += value;
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for(int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+        errors += other.errors;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    //nearest-rank percentile, e.g. percentileMs(99.9)
+    public double percentileMs(double percentile) {
+        if(count == 0) return 0;
+        long rank = Math.min(Math.max((long) Math.ceil(percentile / 100.0 * count), 1), count);
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if(seen >= rank) return Math.min(bucketMidpoint(i), maxNanos) / 1_000_000.0;
+        }
+        return maxNanos / 1_000_000.0;
+    }
+
+    public double meanMs() {
+        if(count == 0) return 0;
+        return totalNanos / (double) count / 1_000_000.0;
+    }
+
+    public double maxMs() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    static int bucketOf(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, msb - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long bucketMidpoint(int bucket) {
+        if(bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (bucket - shift * SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyRecorderTest {
+
+    @Test
+    void valuesBelow128_areExact() {
+        for(long v = 0; v < 128; v++) {
+            int bucket = LatencyRecorder.bucketOf(v);
+            assertEquals(v, bucket);
+            assertEquals(v, LatencyRecorder.bucketMidpoint(bucket));
+        }
+    }
+
+    @Test
+    void bucketBoundaries_areContiguous() {
+        assertEquals(127, LatencyRecorder.bucketOf(127));
+        assertEquals(128, LatencyRecorder.bucketOf(128));
+        assertEquals(128, LatencyRecorder.bucketOf(129));
+        assertEquals(191, LatencyRecorder.bucketOf(255));
+        assertEquals(192, LatencyRecorder.bucketOf(256));
+        //buckets above 127 are two wide at first, the midpoint lies inside the bucket
+        assertEquals(129, LatencyRecorder.bucketMidpoint(128));
+        assertEquals(255, LatencyRecorder.bucketMidpoint(191));
+        assertEquals(258, LatencyRecorder.bucketMidpoint(192));
+    }
+
+    @Test
+    void longMaxValue_fitsLastBucket() {
+        int bucket = LatencyRecorder.bucketOf(Long.MAX_VALUE);
+        assertEquals(58 * 64 - 1, bucket);
+        assertTrue(LatencyRecorder.bucketMidpoint(bucket) > 0);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(Long.MAX_VALUE);
+        double maxMs = Long.MAX_VALUE / 1_000_000.0;
+        assertEquals(maxMs, recorder.percentileMs(50), maxMs * 0.016);
+        assertEquals(maxMs, recorder.maxMs(), 1e-3);
+    }
+
+    @Test
+    void percentiles_stayWithinBucketPrecision() {
+        Random random = new Random(1);
+        long[] samples = new long[100_000];
+        LatencyRecorder recorder = new LatencyRecorder();
+        for(int i = 0; i < samples.length; i++) {
+            //log-uniform between 1 microsecond and 10 seconds
+            samples[i] = (long) Math.pow(10, 3 + random.nextDouble() * 7);
+            recorder.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        for(double p : new double[]{50, 90, 99, 99.9, 100}) {
+            int rank = (int) Math.ceil(p / 100.0 * samples.length);
+            double exactMs = samples[rank - 1] / 1_000_000.0;
+            double actualMs = recorder.percentileMs(p);
+            assertTrue(Math.abs(actualMs - exactMs) <= exactMs * 0.016, "p" + p + ": " + actualMs + " vs " + exactMs);
+        }
+        assertEquals(samples.length, recorder.getCount());
+    }
+
+    @Test
+    void merge_combinesCountsErrorsAndMax() {
+        LatencyRecorder a = new LatencyRecorder();
+        LatencyRecorder b = new LatencyRecorder();
+        a.record(1_000_000);
+        b.record(3_000_000);
+        b.recordError();
+
+        a.merge(b);
+
+        assertEquals(2, a.getCount());
+        assertEquals(1, a.getErrors());
+        assertEquals(2.0, a.meanMs(), 1e-9);
+        assertEquals(3.0, a.maxMs(), 1e-9);
+        assertEquals(0, new LatencyRecorder().percentileMs(99));
+    }
+}
@@ -0,0 +1,161 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import com.abnamro.recipemanagementapi.loadtest.LoadTestSettings.Operation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a measured run: throughput, latency percentiles per operation, heap and GC
+ * activity, and the SLO checks derived from them.
+ */
+public class LoadReport {
+
+    private final Map<Operation, LatencyRecorder> perOperation;
+    private final LatencyRecorder overall = new LatencyRecorder();
+    //open loop only: requests scheduled inside the window that were never sent because the server fell behind
+    private final long missed;
+    private final double elapsedSeconds;
+    private final JvmSnapshot start;
+    private final JvmSnapshot end;
+
+    public LoadReport(Map<Operation, LatencyRecorder> perOperation, long missed, double elapsedSeconds,
+                      JvmSnapshot start, JvmSnapshot end) {
+        this.perOperation = new EnumMap<>(perOperation);
+        this.missed = missed;
+        this.elapsedSeconds = elapsedSeconds;
+        this.start = start;
+        this.end = end;
+        perOperation.values().forEach(overall::merge);
+    }
+
+    //successful requests only, fast failures must not count as capacity
+    public double throughput() {
+        return overall.getCount() / elapsedSeconds;
+    }
+
+    //missed requests count as failed, from the users' side they were never served
+    public double errorRate() {
+        long total = overall.getCount() + overall.getErrors() + missed;
+        return total == 0 ? 0 : (overall.getErrors() + missed) / (double) total;
+    }
+
+    public double heapGrowthMb() {
+        return (end.heapUsedAfterGc() - start.heapUsedAfterGc()) / (1024.0 * 1024.0);
+    }
+
+    public List<String> sloViolations(LoadTestSettings settings) {
+        List<String> violations = new ArrayList<>();
+        if(overall.getCount() == 0) {
+            violations.add("no successful requests were recorded");
+            return violations;
+        }
+        checkMin(violations, "successful throughput (ops/s)", throughput(), settings.getMinThroughput());
+        checkMax(violations, "p50 latency (ms)", overall.percentileMs(50), settings.getMaxP50Ms());
+        checkMax(violations, "p99 latency (ms)", overall.percentileMs(99), settings.getMaxP99Ms());
+        checkMax(violations, "p999 latency (ms)", overall.percentileMs(99.9), settings.getMaxP999Ms());
+        checkMax(violations, "error rate", errorRate(), settings.getMaxErrorRate());
+        checkMax(violations, "heap growth after GC (MB)", heapGrowthMb(), settings.getMaxHeapGrowthMb());
+        return violations;
+    }
+
+    private static void checkMin(List<String> violations, String metric, double actual, double threshold) {
+        if(threshold >= 0 && actual < threshold) {
+            violations.add(format("%s %.3f is below the SLO of %.3f", metric, actual, threshold));
+        }
+    }
+
+    private static void checkMax(List<String> violations, String metric, double actual, double threshold) {
+        if(threshold >= 0 && actual > threshold) {
+            violations.add(format("%s %.3f exceeds the SLO of %.3f", metric, actual, threshold));
+        }
+    }
+
+    public String render(LoadTestSettings settings) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Recipe API load test report ===\n");
+        String mode = settings.getRate() > 0
+                ? format("open loop at %.1f ops/s (latency from intended start)", settings.getRate())
+                : "closed loop";
+        sb.append(format("duration: %.1fs, threads: %d, %s, mix: %s%n",
+                elapsedSeconds, settings.getThreads(), mode, settings.getMix()));
+        sb.append(format("successful throughput: %.1f ops/s, error rate: %.5f (missed: %d)%n",
+                throughput(), errorRate(), missed));
+        sb.append(format("%-8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        perOperation.forEach((op, rec) -> {
+            if(rec.getCount() + rec.getErrors() > 0) appendRow(sb, op.name().toLowerCase(Locale.ROOT), rec);
+        });
+        appendRow(sb, "all", overall);
+        sb.append(format("heap used: %.1f MB -> %.1f MB (after GC: %.1f MB -> %.1f MB, growth %.1f MB), max %.1f MB%n",
+                mb(start.heapUsed()), mb(end.heapUsed()), mb(start.heapUsedAfterGc()), mb(end.heapUsedAfterGc()),
+                heapGrowthMb(), mb(end.heapMax())));
+        sb.append(format("gc: %d collections, %d ms total pause%n",
+                end.gcCount() - start.gcCount(), end.gcTimeMs() - start.gcTimeMs()));
+
+        List<String> violations = sloViolations(settings);
+        sb.append(violations.isEmpty() ? "SLO: PASS\n" : "SLO: FAIL\n");
+        violations.forEach(v -> sb.append("  - ").append(v).append('\n'));
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, LatencyRecorder rec) {
+        sb.append(format("%-8s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, rec.getCount(), rec.getErrors(),
+                rec.meanMs(), rec.percentileMs(50), rec.percentileMs(99), rec.percentileMs(99.9), rec.maxMs()));
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+
+    /**
+     * Heap and GC counters at one point in time. The generator shares the JVM with the
+     * embedded application, so these numbers include the client side as well.
+     */
+    public record JvmSnapshot(long heapUsed, long heapUsedAfterGc, long heapMax, long gcCount, long gcTimeMs) {
+
+        //the explicit GC runs before the counters are read so it is not attributed to the run
+        public static JvmSnapshot beforeRun() {
+            long used = usedHeap();
+            long usedAfterGc = usedHeapAfterGc();
+            return capture(used, usedAfterGc);
+        }
+
+        //counters are read before the explicit GC for the same reason
+        public static JvmSnapshot afterRun() {
+            JvmSnapshot counters = capture(usedHeap(), 0);
+            return new JvmSnapshot(counters.heapUsed(), usedHeapAfterGc(), counters.heapMax(),
+                    counters.gcCount(), counters.gcTimeMs());
+        }
+
+        private static JvmSnapshot capture(long used, long usedAfterGc) {
+            long count = 0;
+            long time = 0;
+            for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(gc.getCollectionCount(), 0);
+                time += Math.max(gc.getCollectionTime(), 0);
+            }
+            return new JvmSnapshot(used, usedAfterGc,
+                    ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax(), count, time);
+        }
+
+        private static long usedHeap() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        //heap still reachable after a full collection, so growth reflects retained objects, not garbage
+        private static long usedHeapAfterGc() {
+            System.gc();
+            return usedHeap();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import com.abnamro.recipemanagementapi.loadtest.LoadReport.JvmSnapshot;
+import com.abnamro.recipemanagementapi.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LoadReportTest {
+
+    private final JvmSnapshot snapshot = new JvmSnapshot(0, 0, 0, 0, 0);
+
+    @Test
+    void throughput_countsOnlySuccessfulRequests() {
+        LatencyRecorder get = new LatencyRecorder();
+        for(int i = 0; i < 10; i++) get.record(1_000_000);
+        for(int i = 0; i < 30; i++) get.recordError();
+
+        LoadReport report = new LoadReport(Map.of(Operation.GET, get), 0, 2.0, snapshot, snapshot);
+
+        assertEquals(5.0, report.throughput(), 1e-9);
+        assertEquals(0.75, report.errorRate(), 1e-9);
+    }
+
+    @Test
+    void missedRequests_countAsErrors() {
+        LatencyRecorder get = new LatencyRecorder();
+        for(int i = 0; i < 10; i++) get.record(1_000_000);
+
+        LoadReport report = new LoadReport(Map.of(Operation.GET, get), 10, 1.0, snapshot, snapshot);
+
+        assertEquals(10.0, report.throughput(), 1e-9);
+        assertEquals(0.5, report.errorRate(), 1e-9);
+    }
+}
@@ -0,0 +1,94 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load generator configuration, read from system properties so that the Maven profiles
+ * (and -D overrides on the command line) can tune a run without code changes.
+ */
+@Getter
+public class LoadTestSettings {
+
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int threads;
+    //target requests per second over all workers, 0 runs a closed loop
+    private final double rate;
+    private final int seedRecipes;
+    private final Map<Operation, Integer> mix;
+
+    //SLO thresholds, a negative value disables the check
+    private final double minThroughput;
+    private final double maxP50Ms;
+    private final double maxP99Ms;
+    private final double maxP999Ms;
+    private final double maxErrorRate;
+    private final double maxHeapGrowthMb;
+
+    private LoadTestSettings(int warmupSeconds, int durationSeconds, int threads, double rate, int seedRecipes,
+                             Map<Operation, Integer> mix, double minThroughput, double maxP50Ms,
+                             double maxP99Ms, double maxP999Ms, double maxErrorRate, double maxHeapGrowthMb) {
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.threads = threads;
+        this.rate = rate;
+        this.seedRecipes = seedRecipes;
+        this.mix = mix;
+        this.minThroughput = minThroughput;
+        this.maxP50Ms = maxP50Ms;
+        this.maxP99Ms = maxP99Ms;
+        this.maxP999Ms = maxP999Ms;
+        this.maxErrorRate = maxErrorRate;
+        this.maxHeapGrowthMb = maxHeapGrowthMb;
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                intProperty("load.warmupSeconds", 5),
+                intProperty("load.durationSeconds", 30),
+                intProperty("load.threads", 4),
+                doubleProperty("load.rate", 0),
+                intProperty("load.seedRecipes", 500),
+                parseMix(System.getProperty("load.mix", "create=10,get=40,search=35,patch=10,delete=5")),
+                doubleProperty("slo.minThroughput", 25),
+                doubleProperty("slo.p50.maxMs", 100),
+                doubleProperty("slo.p99.maxMs", 750),
+                doubleProperty("slo.p999.maxMs", 2000),
+                doubleProperty("slo.errorRate.max", 0.001),
+                doubleProperty("slo.heapGrowth.maxMb", -1));
+    }
+
+    //format: "create=10,get=40,search=35,patch=10,delete=5" (relative weights)
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for(String part : spec.split(",")) {
+            if(part.isBlank()) continue;
+            String[] kv = part.split("=");
+            if(kv.length != 2) throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            int weight = Integer.parseInt(kv[1].trim());
+            if(weight < 0) throw new IllegalArgumentException("Negative load.mix weight: " + part);
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), weight);
+        }
+        if(weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("load.mix must contain at least one positive weight");
+        }
+        return weights;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return (value == null || value.isBlank()) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return (value == null || value.isBlank()) ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    public enum Operation {
+        CREATE, GET, SEARCH, PATCH, DELETE
+    }
+}
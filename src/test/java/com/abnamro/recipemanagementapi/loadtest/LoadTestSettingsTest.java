@@ -0,0 +1,34 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import com.abnamro.recipemanagementapi.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoadTestSettingsTest {
+
+    @Test
+    void parseMix_readsWeights() {
+        Map<Operation, Integer> mix = LoadTestSettings.parseMix(" create=10, GET=40 ,search=0,");
+
+        assertEquals(Map.of(Operation.CREATE, 10, Operation.GET, 40, Operation.SEARCH, 0), mix);
+    }
+
+    @Test
+    void parseMix_rejectsMalformedEntries() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("create"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("create=1=2"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("create=ten"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("upsert=10"));
+    }
+
+    @Test
+    void parseMix_rejectsNegativeAndAllZeroWeights() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("create=10,get=-1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix("create=0,get=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestSettings.parseMix(""));
+    }
+}
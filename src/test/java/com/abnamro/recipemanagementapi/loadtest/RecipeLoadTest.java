@@ -0,0 +1,164 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import com.abnamro.recipemanagementapi.loadtest.LoadReport.JvmSnapshot;
+import com.abnamro.recipemanagementapi.loadtest.LoadTestSettings.Operation;
+import com.abnamro.recipemanagementapi.repository.RecipeRepository;
+import com.abnamro.recipemanagementapi.service.RecipeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays a weighted create/get/search/patch/delete mix against an embedded instance of the
+ * application over real HTTP and fails when the configured SLOs are not met.
+ * Excluded from the default build, run it with {@code mvn test -Pload-test} or {@code -Pload-test,soak-test}.
+ */
+@Tag("performance")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.org.hibernate.SQL=WARN")
+@ActiveProfiles("test")
+public class RecipeLoadTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private RecipeService recipeService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LoadTestSettings settings;
+    private RecipeWorkload workload;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recipeRepository.deleteAll();
+        recipeService.rebuildSimilarityIndex();
+        settings = LoadTestSettings.fromSystemProperties();
+        workload = new RecipeWorkload(URI.create("http://localhost:" + port), objectMapper);
+        workload.seed(settings.getSeedRecipes());
+    }
+
+    @Test
+    void recipeApi_meetsSlos() throws Exception {
+        //warm up JIT, connection pools and caches, results are discarded
+        run(settings.getWarmupSeconds());
+
+        JvmSnapshot start = JvmSnapshot.beforeRun();
+        long begin = System.nanoTime();
+        RunResult result = run(settings.getDurationSeconds());
+        double elapsedSeconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        JvmSnapshot end = JvmSnapshot.afterRun();
+
+        LoadReport report = new LoadReport(result.recorders(), result.missed(), elapsedSeconds, start, end);
+        String rendered = report.render(settings) + "live recipes at end: " + workload.liveRecipes() + "\n";
+        System.out.println(rendered);
+        Path reportFile = Path.of("target", "load-test", System.getProperty("load.reportName", "load-test") + ".txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, rendered);
+
+        List<String> violations = report.sloViolations(settings);
+        assertTrue(violations.isEmpty(), "SLO regression:\n" + rendered);
+    }
+
+    private RunResult run(int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads());
+        try {
+            List<Future<RunResult>> workers = new ArrayList<>();
+            for(int i = 0; i < settings.getThreads(); i++) {
+                workers.add(executor.submit(() -> work(deadline)));
+            }
+            Map<Operation, LatencyRecorder> merged = newRecorders();
+            long missed = 0;
+            for(Future<RunResult> worker : workers) {
+                RunResult result = worker.get();
+                result.recorders().forEach((op, rec) -> merged.get(op).merge(rec));
+                missed += result.missed();
+            }
+            return new RunResult(merged, missed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Closed loop (load.rate=0): every worker sends its next request as soon as the previous one completed.
+     * Open loop (load.rate>0): every worker follows a fixed schedule of threads/rate seconds per request and
+     * latency is measured from the scheduled start, so time spent queued behind a stalled request counts too
+     * instead of being silently omitted. Workers stop at the deadline even when behind schedule, the
+     * requests that were scheduled but never sent are reported as missed.
+     */
+    private RunResult work(long deadline) throws Exception {
+        Map<Operation, LatencyRecorder> recorders = newRecorders();
+        boolean openLoop = settings.getRate() > 0;
+        long intervalNanos = openLoop ? (long) (settings.getThreads() * 1_000_000_000L / settings.getRate()) : 0;
+        //spread the workers over one interval so they do not fire in bursts
+        long intended = System.nanoTime() + (openLoop ? ThreadLocalRandom.current().nextLong(intervalNanos + 1) : 0);
+        while(intended < deadline && System.nanoTime() < deadline) {
+            long now = System.nanoTime();
+            if(openLoop && intended > now) {
+                Thread.sleep((intended - now) / 1_000_000, (int) ((intended - now) % 1_000_000));
+            }
+            long start = openLoop ? intended : System.nanoTime();
+            Operation requested = nextOperation();
+            RecipeWorkload.Outcome outcome;
+            try {
+                outcome = workload.execute(requested);
+            } catch(IOException e) {
+                outcome = new RecipeWorkload.Outcome(requested, false);
+            }
+            long end = System.nanoTime();
+            if(outcome.ok()) {
+                recorders.get(outcome.operation()).record(end - start);
+            } else {
+                recorders.get(outcome.operation()).recordError();
+            }
+            intended = openLoop ? intended + intervalNanos : end;
+        }
+        long missed = (openLoop && intended < deadline) ? (deadline - intended + intervalNanos - 1) / intervalNanos : 0;
+        return new RunResult(recorders, missed);
+    }
+
+    private Operation nextOperation() {
+        Map<Operation, Integer> mix = settings.getMix();
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for(Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if(r < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("load.mix weights are inconsistent");
+    }
+
+    private Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        //all operations, a get/patch/delete can turn into a create when the catalog runs empty
+        for(Operation op : Operation.values()) recorders.put(op, new LatencyRecorder());
+        return recorders;
+    }
+
+    private record RunResult(Map<Operation, LatencyRecorder> recorders, long missed) {
+    }
+}
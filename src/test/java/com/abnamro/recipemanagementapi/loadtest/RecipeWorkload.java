@@ -0,0 +1,228 @@
+package com.abnamro.recipemanagementapi.loadtest;
+
+import com.abnamro.recipemanagementapi.loadtest.LoadTestSettings.Operation;
+import com.abnamro.recipemanagementapi.model.Recipe;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Issues realistic requests against a running instance of the API. Ingredients are drawn
+ * from a Zipf-like distribution so a few staples ("salt", "onion", ...) appear in most
+ * recipes while the long tail is rare, which is what makes include/exclude filters costly.
+ */
+public class RecipeWorkload {
+
+    private static final String[] INGREDIENTS = {
+            "salt", "onion", "garlic", "olive oil", "pepper", "butter", "tomato", "potato", "egg", "flour",
+            "milk", "sugar", "carrot", "rice", "chicken", "lemon", "ginger", "cumin", "parsley", "cheese",
+            "cream", "basil", "paprika", "beef", "spinach", "mushroom", "coriander", "bell pepper", "chili", "yogurt",
+            "pasta", "bread", "honey", "cinnamon", "thyme", "rosemary", "salmon", "shrimp", "pork", "lentils",
+            "chickpeas", "tofu", "coconut milk", "soy sauce", "vinegar", "mustard", "zucchini", "eggplant", "peas", "corn",
+            "broccoli", "cauliflower", "cabbage", "leek", "celery", "apple", "banana", "almonds", "walnuts", "oats"
+    };
+    private static final String[] MEAT = {"chicken", "beef", "salmon", "shrimp", "pork"};
+    private static final String[] COOKING_TERMS = {"oven", "boil", "grill", "fry", "simmer", "bake", "stir", "steam", "roast", "chop"};
+
+    private static final double[] CUMULATIVE_WEIGHTS = zipfCumulativeWeights(INGREDIENTS.length);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final IdPool ids = new IdPool();
+
+    public RecipeWorkload(URI baseUri, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+    }
+
+    public void seed(int recipes) throws IOException, InterruptedException {
+        for(int i = 0; i < recipes; i++) {
+            if(!create()) throw new IllegalStateException("Failed to seed recipe catalog");
+        }
+    }
+
+    public int liveRecipes() {
+        return ids.size();
+    }
+
+    //get/patch/delete fall back to a create when no recipe is left, the outcome names what was really sent
+    public Outcome execute(Operation operation) throws IOException, InterruptedException {
+        if(operation == Operation.CREATE) return new Outcome(Operation.CREATE, create());
+        if(operation == Operation.SEARCH) return new Outcome(Operation.SEARCH, search());
+
+        Long id = (operation == Operation.DELETE) ? ids.removeRandom() : ids.random();
+        if(id == null) return new Outcome(Operation.CREATE, create());
+        boolean ok = switch(operation) {
+            case GET -> get(id);
+            case PATCH -> patch(id);
+            default -> delete(id);
+        };
+        return new Outcome(operation, ok);
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("/recipes"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(randomRecipe()))));
+        if(response.statusCode() != 201) return false;
+        ids.add(objectMapper.readValue(response.body(), Recipe.class).getId());
+        return true;
+    }
+
+    private boolean get(Long id) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("/recipes/" + id)).GET());
+        //a concurrent delete may have won the race, that is a valid answer
+        return response.statusCode() == 200 || response.statusCode() == 404;
+    }
+
+    private boolean patch(Long id) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> updates = new LinkedHashMap<>();
+        switch(random.nextInt(3)) {
+            case 0 -> updates.put("servings", 1 + random.nextInt(8));
+            case 1 -> updates.put("ingredients", randomIngredients(random, random.nextBoolean()));
+            default -> updates.put("name", "Recipe " + random.nextInt(1_000_000));
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("/recipes/" + id))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(updates))));
+        return response.statusCode() == 200 || response.statusCode() == 404;
+    }
+
+    private boolean delete(Long id) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("/recipes/" + id)).DELETE());
+        return response.statusCode() == 204;
+    }
+
+    private boolean search() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("/recipes" + randomSearchQuery())).GET());
+        return response.statusCode() == 200;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    String randomSearchQuery() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        //a small share of unfiltered listings, they return the whole catalog
+        if(random.nextInt(100) < 5) return "";
+
+        List<String> params = new ArrayList<>();
+        if(random.nextInt(100) < 30) params.add("vegetarian=" + random.nextBoolean());
+        if(random.nextInt(100) < 15) params.add("servings=" + (1 + random.nextInt(6)));
+        if(random.nextInt(100) < 10) params.add("preparationTime=" + (5 * (1 + random.nextInt(12))));
+        if(random.nextInt(100) < 50) {
+            int includes = 1 + random.nextInt(2);
+            for(int i = 0; i < includes; i++) params.add("include=" + encode(randomIngredient(random)));
+        }
+        if(random.nextInt(100) < 30) params.add("exclude=" + encode(randomIngredient(random)));
+        if(random.nextInt(100) < 30) params.add("text=" + COOKING_TERMS[random.nextInt(COOKING_TERMS.length)]);
+        if(params.isEmpty()) params.add("include=" + encode(randomIngredient(random)));
+        return "?" + String.join("&", params);
+    }
+
+    Recipe randomRecipe() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean vegetarian = random.nextInt(100) < 40;
+        StringBuilder instructions = new StringBuilder();
+        int steps = 2 + random.nextInt(3);
+        for(int i = 0; i < steps; i++) {
+            instructions.append(COOKING_TERMS[random.nextInt(COOKING_TERMS.length)])
+                    .append(" for ").append(1 + random.nextInt(20)).append(" minutes. ");
+        }
+        return new Recipe(null, "Recipe " + random.nextInt(1_000_000), vegetarian, 1 + random.nextInt(6),
+                randomIngredients(random, vegetarian), instructions.toString().trim(), 5 * (1 + random.nextInt(12)));
+    }
+
+    private List<String> randomIngredients(ThreadLocalRandom random, boolean vegetarian) {
+        int size = 3 + random.nextInt(8);
+        Set<String> ingredients = new LinkedHashSet<>();
+        while(ingredients.size() < size) {
+            String ingredient = randomIngredient(random);
+            if(vegetarian && isMeat(ingredient)) continue;
+            ingredients.add(ingredient);
+        }
+        return new ArrayList<>(ingredients);
+    }
+
+    private static String randomIngredient(ThreadLocalRandom random) {
+        double r = random.nextDouble();
+        for(int i = 0; i < CUMULATIVE_WEIGHTS.length; i++) {
+            if(r < CUMULATIVE_WEIGHTS[i]) return INGREDIENTS[i];
+        }
+        return INGREDIENTS[INGREDIENTS.length - 1];
+    }
+
+    private static boolean isMeat(String ingredient) {
+        for(String meat : MEAT) {
+            if(meat.equals(ingredient)) return true;
+        }
+        return false;
+    }
+
+    private static double[] zipfCumulativeWeights(int n) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for(int i = 0; i < n; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        for(int i = 0; i < n; i++) cumulative[i] /= total;
+        return cumulative;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    //ok is true when the response matched what the API contract promises for the request
+    public record Outcome(Operation operation, boolean ok) {
+    }
+
+    //ids of recipes believed to exist, shared by all workers
+    private static class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(Long id) {
+            ids.add(id);
+        }
+
+        synchronized Long random() {
+            if(ids.isEmpty()) return null;
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        //swap-remove keeps removal O(1)
+        synchronized Long removeRandom() {
+            if(ids.isEmpty()) return null;
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+    }
+}
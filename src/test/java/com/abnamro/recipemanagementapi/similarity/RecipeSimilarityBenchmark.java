@@ -0,0 +1,93 @@
+package com.abnamro.recipemanagementapi.similarity;
+
+import com.abnamro.recipemanagementapi.loadtest.LatencyRecorder;
+import com.abnamro.recipemanagementapi.model.Recipe;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures top-K query latency of {@link RecipeSimilarityIndex} against an exact brute-force
+ * scan over the same catalog, together with the recall of the index. Runs with the
+ * performance tests: {@code mvn test -Pload-test}.
+ */
+@Tag("performance")
+public class RecipeSimilarityBenchmark {
+
+    @Test
+    void index_meetsRecallAndLatencySlos() throws Exception {
+        int catalogSize = Integer.getInteger("similarity.catalogSize", 50_000);
+        int queries = Integer.getInteger("similarity.queries", 300);
+        int k = Integer.getInteger("similarity.k", 10);
+        double minRecall = Double.parseDouble(System.getProperty("slo.similarity.minRecall", "0.99"));
+        double maxP99Ms = Double.parseDouble(System.getProperty("slo.similarity.p99.maxMs", "50"));
+
+        Random random = new Random(7);
+        List<Recipe> catalog = new ArrayList<>(catalogSize);
+        for(long id = 1; id <= catalogSize; id++) {
+            catalog.add(SimilarityFixtures.randomRecipe(random, id));
+        }
+        RecipeSimilarityIndex index = new RecipeSimilarityIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(SimilarityFixtures.ingredientsById(catalog));
+        double buildMs = (System.nanoTime() - buildStart) / 1_000_000.0;
+
+        //warm up both paths before measuring
+        for(int i = 0; i < 50; i++) {
+            Recipe query = catalog.get(random.nextInt(catalogSize));
+            index.mostSimilar(query, k);
+            SimilarityFixtures.bruteForce(catalog, query, k);
+        }
+
+        LatencyRecorder indexLatency = new LatencyRecorder();
+        LatencyRecorder bruteForceLatency = new LatencyRecorder();
+        long relevant = 0;
+        long found = 0;
+        for(int i = 0; i < queries; i++) {
+            Recipe query = catalog.get(random.nextInt(catalogSize));
+
+            long t0 = System.nanoTime();
+            List<SimilarRecipe> actual = index.mostSimilar(query, k);
+            indexLatency.record(System.nanoTime() - t0);
+
+            t0 = System.nanoTime();
+            List<SimilarRecipe> expected = SimilarityFixtures.bruteForce(catalog, query, k);
+            bruteForceLatency.record(System.nanoTime() - t0);
+
+            //score based recall: a hit is any result as good as the exact K-th neighbour, so ties count
+            relevant += expected.size();
+            if(!expected.isEmpty()) {
+                double kthScore = expected.get(expected.size() - 1).score();
+                found += actual.stream().filter(s -> s.score() >= kthScore - 1e-9).count();
+            }
+        }
+        double recall = relevant == 0 ? 1.0 : (double) found / relevant;
+
+        String report = String.format(Locale.ROOT, """
+                        === Recipe similarity index benchmark ===
+                        catalog: %d recipes, indexed: %d, build: %.1f ms, queries: %d, k: %d
+                        index       mean %.3f ms, p50 %.3f ms, p99 %.3f ms, p999 %.3f ms
+                        brute force mean %.3f ms, p50 %.3f ms, p99 %.3f ms, p999 %.3f ms
+                        recall@%d: %.4f
+                        """,
+                catalogSize, index.size(), buildMs, queries, k,
+                indexLatency.meanMs(), indexLatency.percentileMs(50), indexLatency.percentileMs(99), indexLatency.percentileMs(99.9),
+                bruteForceLatency.meanMs(), bruteForceLatency.percentileMs(50), bruteForceLatency.percentileMs(99), bruteForceLatency.percentileMs(99.9),
+                k, recall);
+        System.out.println(report);
+        Path reportFile = Path.of("target", "load-test", "similarity-benchmark.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertTrue(recall >= minRecall, "recall below SLO of " + minRecall + ":\n" + report);
+        assertTrue(indexLatency.percentileMs(99) <= maxP99Ms, "p99 latency above SLO of " + maxP99Ms + " ms:\n" + report);
+    }
+}
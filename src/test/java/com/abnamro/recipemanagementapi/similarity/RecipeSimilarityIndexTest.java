@@ -0,0 +1,99 @@
+package com.abnamro.recipemanagementapi.similarity;
+
+import com.abnamro.recipemanagementapi.model.Recipe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.abnamro.recipemanagementapi.similarity.SimilarityFixtures.bruteForce;
+import static com.abnamro.recipemanagementapi.similarity.SimilarityFixtures.ingredientsById;
+import static com.abnamro.recipemanagementapi.similarity.SimilarityFixtures.randomRecipe;
+import static com.abnamro.recipemanagementapi.similarity.SimilarityFixtures.recipe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecipeSimilarityIndexTest {
+
+    private final RecipeSimilarityIndex index = new RecipeSimilarityIndex();
+
+    @Test
+    void mostSimilar_ranksByJaccard_andExcludesSelf() {
+        Recipe query = recipe(1L, "potato", "salt", "onion");
+        index.rebuild(ingredientsById(List.of(
+                query,
+                recipe(2L, "potato", "salt", "onion", "pepper"),
+                recipe(3L, "potato", "carrot"),
+                recipe(4L, "chicken", "rice"))));
+
+        List<SimilarRecipe> similar = index.mostSimilar(query, 10);
+
+        assertEquals(List.of(2L, 3L), similar.stream().map(SimilarRecipe::id).toList());
+        assertEquals(0.75, similar.get(0).score(), 1e-9);
+        assertEquals(0.25, similar.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void index_replacesIngredients_andRemoveDropsRecipe() {
+        Recipe query = recipe(1L, "potato", "salt");
+        index.index(query);
+        index.index(recipe(2L, "potato", "salt"));
+        index.index(recipe(2L, "chicken"));
+        index.index(recipe(3L, "Potato "));
+
+        assertEquals(List.of(3L), index.mostSimilar(query, 10).stream().map(SimilarRecipe::id).toList());
+
+        index.remove(3L);
+        assertTrue(index.mostSimilar(query, 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void removingRecipes_shrinksVocabulary() {
+        for(long id = 1; id <= 1000; id++) {
+            index.index(recipe(id, "typo-" + id, "one-off-" + id));
+        }
+        assertEquals(2000, index.vocabularySize());
+
+        //replacing ingredients frees the old ones
+        for(long id = 1; id <= 500; id++) {
+            index.index(recipe(id, "patched-" + id));
+        }
+        assertEquals(1500, index.vocabularySize());
+
+        for(long id = 1; id <= 1000; id++) {
+            index.remove(id);
+        }
+        assertEquals(0, index.vocabularySize());
+        assertEquals(0, index.size());
+
+        //freed slots are reused and still searchable
+        index.index(recipe(1L, "basil", "tomato"));
+        index.index(recipe(2L, "basil"));
+        assertEquals(List.of(2L), index.mostSimilar(recipe(1L, "basil", "tomato"), 10).stream().map(SimilarRecipe::id).toList());
+        assertEquals(2, index.vocabularySize());
+    }
+
+    @Test
+    void mostSimilar_matchesBruteForce() {
+        Random random = new Random(42);
+        List<Recipe> catalog = new ArrayList<>();
+        for(long id = 1; id <= 2000; id++) {
+            catalog.add(randomRecipe(random, id));
+        }
+        index.rebuild(ingredientsById(catalog));
+
+        for(int q = 0; q < 100; q++) {
+            Recipe query = catalog.get(random.nextInt(catalog.size()));
+            List<SimilarRecipe> expected = bruteForce(catalog, query, 10);
+            List<SimilarRecipe> actual = index.mostSimilar(query, 10);
+
+            assertEquals(expected.size(), actual.size());
+            for(int i = 0; i < expected.size(); i++) {
+                //ids may differ between equally scored recipes, scores may not
+                assertEquals(expected.get(i).score(), actual.get(i).score(), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.abnamro.recipemanagementapi.similarity;
+
+import com.abnamro.recipemanagementapi.model.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+//shared catalog generator and exact brute-force oracle for the similarity tests and benchmark
+final class SimilarityFixtures {
+
+    private SimilarityFixtures() {}
+
+    static Recipe recipe(Long id, String... ingredients) {
+        return new Recipe(id, "Recipe " + id, true, 2, List.of(ingredients), "cook", 10);
+    }
+
+    //ingredients skewed towards low numbers, like real staples
+    static Recipe randomRecipe(Random random, long id) {
+        int size = 3 + random.nextInt(10);
+        Set<String> ingredients = new HashSet<>();
+        while(ingredients.size() < size) {
+            int rank = (int) Math.floor(Math.pow(200, random.nextDouble()));
+            ingredients.add("ingredient-" + rank);
+        }
+        return recipe(id, ingredients.toArray(new String[0]));
+    }
+
+    static Map<Long, Collection<String>> ingredientsById(Collection<Recipe> recipes) {
+        Map<Long, Collection<String>> ingredientsById = new HashMap<>();
+        for(Recipe recipe : recipes) ingredientsById.put(recipe.getId(), recipe.getIngredients());
+        return ingredientsById;
+    }
+
+    static List<SimilarRecipe> bruteForce(List<Recipe> catalog, Recipe query, int k) {
+        Set<String> q = new HashSet<>(query.getIngredients());
+        List<SimilarRecipe> scored = new ArrayList<>();
+        for(Recipe candidate : catalog) {
+            if(candidate.getId().equals(query.getId())) continue;
+            Set<String> x = new HashSet<>(candidate.getIngredients());
+            Set<String> intersection = new HashSet<>(q);
+            intersection.retainAll(x);
+            if(intersection.isEmpty()) continue;
+            Set<String> union = new HashSet<>(q);
+            union.addAll(x);
+            scored.add(new SimilarRecipe(candidate.getId(), (double) intersection.size() / union.size()));
+        }
+        scored.sort(Comparator.comparingDouble(SimilarRecipe::score).reversed().thenComparing(SimilarRecipe::id));
+        return scored.subList(0, Math.min(k, scored.size()));
+    }
+}